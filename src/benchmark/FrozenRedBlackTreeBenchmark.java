@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2016 Federico Bertani
+ * This file is part of RedBlackTree.
+ * RedBlackTree is free software: you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation, either version 3 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.Random;
+
+/**
+ * Compare the look up time of a RedBlackTree and of its frozen snapshot.
+ * Run it with <code>gradle benchmark</code>.
+ */
+public class FrozenRedBlackTreeBenchmark {
+
+    private static final int TREE_SIZE = 1 << 20;
+    private static final int LOOK_UPS = 1 << 21;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        //Integer items use the primitive keys of the snapshot
+        RedBlackTree<Integer> integerTree = new RedBlackTree<>(0);
+        for (int i = 1; i < TREE_SIZE; ++i) {
+            integerTree = integerTree.insert(i);
+        }
+        //String items use the generic path that compares the items
+        RedBlackTree<String> stringTree = new RedBlackTree<>(key(0));
+        for (int i = 1; i < TREE_SIZE; ++i) {
+            stringTree = stringTree.insert(key(i));
+        }
+        //use the same random queries for both trees, half of them are missing items
+        Random random = new Random(42);
+        Integer[] integerQueries = new Integer[LOOK_UPS];
+        String[] stringQueries = new String[LOOK_UPS];
+        for (int i = 0; i < LOOK_UPS; ++i) {
+            integerQueries[i] = random.nextInt(2 * TREE_SIZE);
+            stringQueries[i] = key(integerQueries[i]);
+        }
+        run("Integer", integerTree, integerQueries);
+        run("String", stringTree, stringQueries);
+    }
+
+    /**
+     * Get a String key that keeps the order of the given number.
+     *
+     * @param number int: the number to convert.
+     * @return String: the key.
+     */
+    private static String key(int number) {
+        return String.format("%08d", number);
+    }
+
+    /**
+     * Time the given queries on the tree and on its snapshot and print the result.
+     * The first round warms up the JIT and is not printed.
+     *
+     * @param name    String: the name of the item type.
+     * @param tree    RedBlackTree&lt;ItemType&gt;: the tree to search.
+     * @param queries ItemType[]: the items to search.
+     */
+    private static <ItemType extends Comparable<ItemType>> void run(String name, RedBlackTree<ItemType> tree, ItemType[] queries) {
+        FrozenRedBlackTree<ItemType> frozenTree = tree.freeze();
+        for (int round = 0; round <= ROUNDS; ++round) {
+            long start = System.nanoTime();
+            int liveFound = 0;
+            for (ItemType query : queries) {
+                if (tree.contains(query)) liveFound++;
+            }
+            long liveTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            int frozenFound = 0;
+            for (ItemType query : queries) {
+                if (frozenTree.contains(query)) frozenFound++;
+            }
+            long frozenTime = System.nanoTime() - start;
+            if (liveFound != frozenFound) throw new IllegalStateException("the snapshot differs from the tree");
+            if (round > 0) {
+                System.out.printf("%s contains on %d items, %d look ups: live tree %d ms, frozen tree %d ms (%.2fx)%n",
+                        name, TREE_SIZE, queries.length, liveTime / 1000000, frozenTime / 1000000,
+                        (double) liveTime / frozenTime);
+            }
+        }
+    }
+}
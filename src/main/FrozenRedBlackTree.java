@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2016 Federico Bertani
+ * This file is part of RedBlackTree.
+ * RedBlackTree is free software: you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation, either version 3 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.List;
+
+/**
+ * FrozenRedBlackTree is an immutable snapshot of a RedBlackTree.
+ * The items are stored in a single array in Eytzinger (breadth-first) order: the root is at index 1
+ * and the children of the item at index k are at index 2k and 2k+1.
+ * In this way the first levels of the search are always in the same cache lines and there is no
+ * pointer to follow from a node to his children.
+ * Create it with {@link RedBlackTree#freeze()}.
+ * <p>
+ * If all the items are Integer or Long their values are also copied in a primitive int[] or long[] array
+ * with the same layout, and the searches compare those values directly without branching.
+ * For every other item type the array holds only references: every comparison still reads an item stored
+ * outside the array, so every level of the search can still cause a cache miss.
+ * Those searches branch on the comparison result, so the processor can start loading the next level
+ * before the comparison ends.
+ *
+ * @param <ItemType> the type of data that the tree contains.
+ * @see <a href="https://arxiv.org/abs/1509.05053">Array layouts for comparison-based searching</a>
+ */
+public final class FrozenRedBlackTree<ItemType extends Comparable<ItemType>> {
+
+    /**
+     * The items in Eytzinger order. Index 0 is not used.
+     */
+    private final Object[] items;
+    /**
+     * The values of the items in Eytzinger order if all the items are Integer, null otherwise.
+     */
+    private final int[] intKeys;
+    /**
+     * The values of the items in Eytzinger order if all the items are Long, null otherwise.
+     */
+    private final long[] longKeys;
+    /**
+     * For every position of the items array the number of items smaller than the item in that position.
+     */
+    private final int[] ranks;
+    /**
+     * The number of items in the tree.
+     */
+    private final int size;
+
+    /**
+     * Create a new frozen tree from a list of items.
+     * Use internally from RedBlackTree.
+     *
+     * @param sortedItems List&lt;ItemType&gt;: the items of the tree in ascending order.
+     */
+    FrozenRedBlackTree(List<ItemType> sortedItems) {
+        //save the number of items
+        this.size = sortedItems.size();
+        //create the arrays with one more position because index 0 is not used
+        this.items = new Object[size + 1];
+        this.ranks = new int[size + 1];
+        //fill the arrays starting from the root with the smallest item
+        this.fill(sortedItems, 1, 0);
+        //copy the values in a primitive array if the item type allows it
+        this.intKeys = allItemsAre(Integer.class) ? toIntKeys() : null;
+        this.longKeys = allItemsAre(Long.class) ? toLongKeys() : null;
+    }
+
+    /**
+     * Check if the tree is not empty and all its items are of the given class.
+     *
+     * @param itemClass Class&lt;?&gt;: the class to check.
+     * @return boolean: true if all the items are of the given class, false otherwise.
+     */
+    private boolean allItemsAre(Class<?> itemClass) {
+        for (int position = 1; position <= size; ++position) {
+            if (items[position] == null || items[position].getClass() != itemClass) return false;
+        }
+        return size > 0;
+    }
+
+    /**
+     * Copy the values of the Integer items in a new array with the same layout.
+     *
+     * @return int[]: the values of the items.
+     */
+    private int[] toIntKeys() {
+        int[] keys = new int[size + 1];
+        for (int position = 1; position <= size; ++position) {
+            keys[position] = (Integer) items[position];
+        }
+        return keys;
+    }
+
+    /**
+     * Copy the values of the Long items in a new array with the same layout.
+     *
+     * @return long[]: the values of the items.
+     */
+    private long[] toLongKeys() {
+        long[] keys = new long[size + 1];
+        for (int position = 1; position <= size; ++position) {
+            keys[position] = (Long) items[position];
+        }
+        return keys;
+    }
+
+    /**
+     * Fill the arrays with an in-order visit of the implicit tree rooted at the given position.
+     *
+     * @param sortedItems List&lt;ItemType&gt;: the items of the tree in ascending order.
+     * @param position    int: the position of the subtree root in the arrays.
+     * @param nextRank    int: the in-order index of the first item to place in the subtree.
+     * @return int: the in-order index of the first item after the subtree.
+     */
+    private int fill(List<ItemType> sortedItems, int position, int nextRank) {
+        if (position <= size) {
+            //fill the left subtree with the smaller items
+            nextRank = fill(sortedItems, 2 * position, nextRank);
+            //then the current position with the next item
+            items[position] = sortedItems.get(nextRank);
+            ranks[position] = nextRank;
+            //and the right subtree with the greater items
+            nextRank = fill(sortedItems, 2 * position + 1, nextRank + 1);
+        }
+        return nextRank;
+    }
+
+    /**
+     * Get the number of items in the tree.
+     *
+     * @return int: the number of items.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the item in the given position of the items array.
+     *
+     * @param position int: the position of the item.
+     * @return ItemType: the item, null if the position is 0.
+     */
+    @SuppressWarnings("unchecked")
+    private ItemType itemAt(int position) {
+        return (ItemType) items[position];
+    }
+
+    /**
+     * Find the position of the smallest item greater or equal than the given one.
+     *
+     * @param item ItemType: the item to search.
+     * @return int: the position of the found item, 0 if all the items are smaller.
+     */
+    private int lowerBound(ItemType item) {
+        //use the primitive keys when they exist
+        if (intKeys != null && item instanceof Integer) return lowerBound((int) (Integer) item);
+        if (longKeys != null && item instanceof Long) return lowerBound((long) (Long) item);
+        int position = 1;
+        while (position <= size) {
+            //go right only if the current item is smaller than the searched one
+            if (itemAt(position).compareTo(item) < 0) position = 2 * position + 1;
+            else position = 2 * position;
+        }
+        //the path ends with the last left turn followed by only right turns: drop them and the left turn
+        return position >>> (Integer.numberOfTrailingZeros(~position) + 1);
+    }
+
+    /**
+     * Find the position of the greatest item smaller or equal than the given one.
+     *
+     * @param item ItemType: the item to search.
+     * @return int: the position of the found item, 0 if all the items are greater.
+     */
+    private int upperBoundPredecessor(ItemType item) {
+        //use the primitive keys when they exist
+        if (intKeys != null && item instanceof Integer) return upperBoundPredecessor((int) (Integer) item);
+        if (longKeys != null && item instanceof Long) return upperBoundPredecessor((long) (Long) item);
+        int position = 1;
+        while (position <= size) {
+            //go right only if the current item is smaller or equal than the searched one
+            if (item.compareTo(itemAt(position)) < 0) position = 2 * position;
+            else position = 2 * position + 1;
+        }
+        //the path ends with the last right turn followed by only left turns: drop them and the right turn
+        return position >>> (Integer.numberOfTrailingZeros(position) + 1);
+    }
+
+    /**
+     * Same as {@link #lowerBound(Comparable)} on the int keys.
+     * At every level the comparison result is added to the position instead of being used for a jump,
+     * so the descent has always the same length and no branch to mispredict.
+     *
+     * @param key int: the value to search.
+     * @return int: the position of the found item, 0 if all the items are smaller.
+     */
+    private int lowerBound(int key) {
+        int position = 1;
+        while (position <= size) {
+            position = 2 * position + isLess(intKeys[position], key);
+        }
+        return position >>> (Integer.numberOfTrailingZeros(~position) + 1);
+    }
+
+    /**
+     * Same as {@link #lowerBound(Comparable)} on the long keys.
+     *
+     * @param key long: the value to search.
+     * @return int: the position of the found item, 0 if all the items are smaller.
+     */
+    private int lowerBound(long key) {
+        int position = 1;
+        while (position <= size) {
+            position = 2 * position + isLess(longKeys[position], key);
+        }
+        return position >>> (Integer.numberOfTrailingZeros(~position) + 1);
+    }
+
+    /**
+     * Same as {@link #upperBoundPredecessor(Comparable)} on the int keys.
+     *
+     * @param key int: the value to search.
+     * @return int: the position of the found item, 0 if all the items are greater.
+     */
+    private int upperBoundPredecessor(int key) {
+        int position = 1;
+        while (position <= size) {
+            position = 2 * position + 1 - isLess(key, intKeys[position]);
+        }
+        return position >>> (Integer.numberOfTrailingZeros(position) + 1);
+    }
+
+    /**
+     * Same as {@link #upperBoundPredecessor(Comparable)} on the long keys.
+     *
+     * @param key long: the value to search.
+     * @return int: the position of the found item, 0 if all the items are greater.
+     */
+    private int upperBoundPredecessor(long key) {
+        int position = 1;
+        while (position <= size) {
+            position = 2 * position + 1 - isLess(key, longKeys[position]);
+        }
+        return position >>> (Integer.numberOfTrailingZeros(position) + 1);
+    }
+
+    /**
+     * Compare two int values without branching.
+     *
+     * @param first  int: the first value.
+     * @param second int: the second value.
+     * @return int: 1 if the first value is smaller than the second, 0 otherwise.
+     */
+    private static int isLess(int first, int second) {
+        //the difference can't overflow in a long so its sign is the result
+        return (int) (((long) first - second) >>> 63);
+    }
+
+    /**
+     * Compare two long values without branching.
+     *
+     * @param first  long: the first value.
+     * @param second long: the second value.
+     * @return int: 1 if the first value is smaller than the second, 0 otherwise.
+     */
+    private static int isLess(long first, long second) {
+        long difference = first - second;
+        //the sign of the difference, corrected when the subtraction overflows (Hacker's Delight 2-12)
+        return (int) ((difference ^ ((first ^ second) & (difference ^ first))) >>> 63);
+    }
+
+    /**
+     * Check if an item is in the tree or not.
+     *
+     * @param item ItemType: the item to search
+     * @return boolean: true if the item is contained in the tree false otherwise.
+     */
+    public boolean contains(ItemType item) {
+        int position = lowerBound(item);
+        if (position == 0) return false;
+        //check the primitive keys when they exist so the item itself is never read
+        if (intKeys != null && item instanceof Integer) return intKeys[position] == (Integer) item;
+        if (longKeys != null && item instanceof Long) return longKeys[position] == (Long) item;
+        return itemAt(position).compareTo(item) == 0;
+    }
+
+    /**
+     * Get the greatest item smaller or equal than the given one.
+     *
+     * @param item ItemType: the item to search.
+     * @return ItemType: the floor item, null if all the items are greater.
+     */
+    public ItemType floor(ItemType item) {
+        return itemAt(upperBoundPredecessor(item));
+    }
+
+    /**
+     * Get the smallest item greater or equal than the given one.
+     *
+     * @param item ItemType: the item to search.
+     * @return ItemType: the ceiling item, null if all the items are smaller.
+     */
+    public ItemType ceiling(ItemType item) {
+        return itemAt(lowerBound(item));
+    }
+
+    /**
+     * Get the number of items strictly smaller than the given one.
+     *
+     * @param item ItemType: the item to search.
+     * @return int: the rank of the item.
+     */
+    public int rank(ItemType item) {
+        int position = lowerBound(item);
+        return (position == 0) ? size : ranks[position];
+    }
+
+    /**
+     * Get the minimum item of the tree.
+     *
+     * @return ItemType: the minimum item, null if the tree is empty.
+     */
+    public ItemType min() {
+        //the leftmost position is the greatest power of two not exceeding the size
+        return itemAt(Integer.highestOneBit(size));
+    }
+
+    /**
+     * Get the maximum item of the tree.
+     *
+     * @return ItemType: the maximum item, null if the tree is empty.
+     */
+    public ItemType max() {
+        //the rightmost position is the greatest 2^k - 1 not exceeding the size
+        return itemAt((size == 0) ? 0 : (Integer.highestOneBit(size + 1) - 1));
+    }
+}
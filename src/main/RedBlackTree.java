@@ -16,6 +16,9 @@
  *    along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * RedBlackTree is a data structure. It's a binary search tree with auto-balance system.
  *
@@ -196,6 +199,33 @@ public class RedBlackTree<ItemType extends Comparable<ItemType>> {
         else return this.rightChild.max();
     }
 
+    /**
+     * Create an immutable snapshot of the whole tree that is faster to search.
+     * Use it when the tree is built once and then only queried. Later changes to the tree are not seen by the snapshot.
+     *
+     * @return FrozenRedBlackTree&lt;ItemType&gt; : the snapshot of the tree.
+     */
+    public FrozenRedBlackTree<ItemType> freeze() {
+        //collect the items in ascending order starting from the root
+        List<ItemType> sortedItems = new ArrayList<>();
+        this.getRoot().collectInOrder(sortedItems);
+        return new FrozenRedBlackTree<>(sortedItems);
+    }
+
+    /**
+     * Add the items of the tree to the given list in ascending order.
+     *
+     * @param sortedItems List&lt;ItemType&gt;: the list to fill.
+     */
+    private void collectInOrder(List<ItemType> sortedItems) {
+        //nullleaf has no items
+        if (this != nullLeaf) {
+            leftChild.collectInOrder(sortedItems);
+            sortedItems.add(this.value);
+            rightChild.collectInOrder(sortedItems);
+        }
+    }
+
     /**
      * Insert a new node on the tree.
      * It return the new root of the tree that can have changed because of balancing.
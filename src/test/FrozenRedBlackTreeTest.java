@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016 Federico Bertani
+ * This file is part of RedBlackTree.
+ * RedBlackTree is free software: you can redistribute it and/or modify
+ *    it under the terms of the GNU General Public License as published by
+ *    the Free Software Foundation, either version 3 of the License, or
+ *    (at your option) any later version.
+ *
+ *    This program is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *    GNU General Public License for more details.
+ *
+ *    You should have received a copy of the GNU General Public License
+ *    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FrozenRedBlackTreeTest {
+
+    private final int treeSize = 1729;
+    private RedBlackTree<Integer> tree;
+    private FrozenRedBlackTree<Integer> frozenTree;
+
+    @Before
+    public void setup() {
+        //insert only the even numbers so the odd ones can be used as missing items
+        tree = new RedBlackTree<>(0);
+        for (int i = 1; i < treeSize; ++i) {
+            tree = tree.insert(2 * i);
+        }
+        frozenTree = tree.freeze();
+    }
+
+    @Test
+    public void testSize() throws Exception {
+        Assert.assertEquals(treeSize, frozenTree.size());
+    }
+
+    @Test
+    public void testContains() throws Exception {
+        for (int i = -1; i <= 2 * treeSize; ++i) {
+            Assert.assertEquals(tree.contains(i), frozenTree.contains(i));
+        }
+    }
+
+    @Test
+    public void testFloorAndCeiling() throws Exception {
+        Assert.assertNull(frozenTree.floor(-1));
+        Assert.assertNull(frozenTree.ceiling(2 * treeSize - 1));
+        for (int i = 0; i < 2 * treeSize - 1; ++i) {
+            Assert.assertEquals((long) (i - (i % 2)), (long) frozenTree.floor(i));
+            Assert.assertEquals((long) (i + (i % 2)), (long) frozenTree.ceiling(i));
+        }
+    }
+
+    @Test
+    public void testRank() throws Exception {
+        Assert.assertEquals(0, frozenTree.rank(-1));
+        Assert.assertEquals(treeSize, frozenTree.rank(2 * treeSize));
+        for (int i = 0; i < 2 * treeSize - 1; ++i) {
+            Assert.assertEquals((i + 1) / 2, frozenTree.rank(i));
+        }
+    }
+
+    @Test
+    public void testMinMax() throws Exception {
+        Assert.assertEquals(tree.min().getValue(), frozenTree.min());
+        Assert.assertEquals(tree.max().getValue(), frozenTree.max());
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() throws Exception {
+        tree = tree.insert(-2);
+        tree = tree.delete(0);
+        Assert.assertFalse(frozenTree.contains(-2));
+        Assert.assertTrue(frozenTree.contains(0));
+    }
+
+    @Test
+    public void testIntegerExtremes() throws Exception {
+        FrozenRedBlackTree<Integer> extremesTree = new RedBlackTree<>(0)
+                .insert(Integer.MIN_VALUE).insert(Integer.MAX_VALUE).freeze();
+        Assert.assertTrue(extremesTree.contains(Integer.MIN_VALUE));
+        Assert.assertTrue(extremesTree.contains(Integer.MAX_VALUE));
+        Assert.assertEquals(Integer.valueOf(0), extremesTree.floor(Integer.MAX_VALUE - 1));
+        Assert.assertEquals(Integer.valueOf(0), extremesTree.ceiling(Integer.MIN_VALUE + 1));
+        Assert.assertEquals(2, extremesTree.rank(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testLongKeys() throws Exception {
+        RedBlackTree<Long> longTree = new RedBlackTree<>(Long.MIN_VALUE);
+        for (int i = 0; i < treeSize; ++i) {
+            longTree = longTree.insert(2L * i);
+        }
+        longTree = longTree.insert(Long.MAX_VALUE);
+        FrozenRedBlackTree<Long> frozenLongTree = longTree.freeze();
+        Assert.assertEquals(treeSize + 2, frozenLongTree.size());
+        Assert.assertTrue(frozenLongTree.contains(Long.MIN_VALUE));
+        Assert.assertTrue(frozenLongTree.contains(Long.MAX_VALUE));
+        for (int i = 0; i < 2 * treeSize - 1; ++i) {
+            Assert.assertEquals(i % 2 == 0, frozenLongTree.contains((long) i));
+            Assert.assertEquals((long) (i - (i % 2)), (long) frozenLongTree.floor((long) i));
+            Assert.assertEquals((long) (i + (i % 2)), (long) frozenLongTree.ceiling((long) i));
+            Assert.assertEquals((i + 1) / 2 + 1, frozenLongTree.rank((long) i));
+        }
+    }
+
+    @Test
+    public void testComparableKeys() throws Exception {
+        //strings use the generic path that compares the items
+        RedBlackTree<String> stringTree = new RedBlackTree<>("b");
+        stringTree = stringTree.insert("d").insert("f");
+        FrozenRedBlackTree<String> frozenStringTree = stringTree.freeze();
+        Assert.assertTrue(frozenStringTree.contains("d"));
+        Assert.assertFalse(frozenStringTree.contains("c"));
+        Assert.assertNull(frozenStringTree.floor("a"));
+        Assert.assertEquals("b", frozenStringTree.floor("c"));
+        Assert.assertEquals("f", frozenStringTree.ceiling("e"));
+        Assert.assertNull(frozenStringTree.ceiling("g"));
+        Assert.assertEquals(2, frozenStringTree.rank("e"));
+    }
+}